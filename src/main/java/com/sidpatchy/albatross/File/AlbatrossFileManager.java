@@ -126,15 +126,10 @@ public class AlbatrossFileManager {
     protected void createConfigurationFileIfNotExists() throws IOException {
         file.getParentFile().mkdirs();
         if (file.createNewFile()) {
-            try (OutputStream outputStream = new FileOutputStream(file)) {
-                InputStream resource = plugin.getResource(resourceName);
-
+            try (OutputStream outputStream = new FileOutputStream(file);
+                    InputStream resource = plugin.getResource(resourceName)) {
                 if (resource != null) {
-                    int length;
-                    byte[] buffer = new byte[1024];
-                    while ((length = resource.read(buffer)) > 0) {
-                        outputStream.write(buffer, 0 , length);
-                    }
+                    resource.transferTo(outputStream);
                 }
             }
             plugin.getLogger().info("Successfully created " + file.getName() + " file.");
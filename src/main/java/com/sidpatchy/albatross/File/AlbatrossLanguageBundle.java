@@ -0,0 +1,259 @@
+package com.sidpatchy.albatross.File;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only view of a language bundle compiled from a lang-*.yml file by the compileLanguageBundles Gradle task.
+ * <p>
+ * The bundle is memory-mapped rather than read into the heap, and strings are only decoded the first time they are
+ * requested.
+ */
+public class AlbatrossLanguageBundle {
+    private static final int MAGIC = 0x414C4231;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int INDEX_ENTRY_SIZE = 16;
+
+    private final MappedByteBuffer buffer;
+    private final int numKeys;
+    private final String[] values;
+
+    /**
+     * Should only be called with a buffer that has passed {@link #validate(FileChannel)}.
+     */
+    private AlbatrossLanguageBundle(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        numKeys = buffer.getInt(16);
+        // The checksum only proves the file is intact; make sure every entry actually points inside it too.
+        for (int i = 0; i < numKeys; i++) {
+            int entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            if (isOutOfBounds(buffer.getInt(entry), buffer.getInt(entry + 4))
+                    || isOutOfBounds(buffer.getInt(entry + 8), buffer.getInt(entry + 12))) {
+                throw new IOException("Language bundle index is corrupt.");
+            }
+        }
+        values = new String[numKeys];
+    }
+
+    /**
+     * Maps a bundle file from disk.
+     *
+     * @param file bundle file
+     * @return the mapped bundle
+     * @throws IOException if the file can't be read or isn't a valid bundle, including when it is truncated or corrupt
+     */
+    public static AlbatrossLanguageBundle open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // Validate with plain reads before mapping. Windows won't replace or delete a file while any mapping of it
+            // is alive, so a rejected file must never be mapped or it couldn't be re-extracted.
+            validate(channel);
+            // The mapping remains valid after the channel is closed.
+            return new AlbatrossLanguageBundle(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Extracts a bundle shipped in the plugin jar to the plugin's data folder and maps it. The extracted file is named
+     * after the bundle's checksum, so the extraction is skipped on most startups.
+     * <p>
+     * Because each build of a bundle gets its own file name, a bundle that is still mapped by a previous plugin instance
+     * (e.g. after a reload) never has to be overwritten. A file is only replaced when it fails validation, in which
+     * case it was never mapped. Replacements are written to a temporary file and moved into place, so an interrupted
+     * extraction never leaves a partial bundle behind.
+     *
+     * @param resourceName name/path of the bundle within the plugin jar
+     * @param plugin plugin utilizing the bundle
+     * @return the mapped bundle, or null if the plugin doesn't ship the requested bundle
+     * @throws IOException
+     */
+    public static AlbatrossLanguageBundle fromResource(String resourceName, JavaPlugin plugin) throws IOException {
+        InputStream resource = plugin.getResource(resourceName);
+        if (resource == null) {
+            return null;
+        }
+
+        File cacheDirectory = new File(plugin.getDataFolder(), "lang-cache");
+        String baseName = new File(resourceName).getName().replaceFirst("\\.bundle$", "");
+        File file;
+        try (resource) {
+            ByteBuffer header = ByteBuffer.wrap(resource.readNBytes(HEADER_SIZE));
+            if (header.capacity() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException(resourceName + " is not a language bundle.");
+            }
+            file = new File(cacheDirectory, baseName + "-" + String.format("%08x", header.getLong(8)) + ".bundle");
+            if (file.exists()) {
+                try {
+                    AlbatrossLanguageBundle bundle = open(file);
+                    deleteStaleBundles(cacheDirectory, baseName, file);
+                    return bundle;
+                }
+                catch (IOException e) {
+                    plugin.getLogger().warning("Cached language bundle " + file.getName() + " is invalid, extracting it again.");
+                }
+            }
+            extract(header.array(), resource, file);
+        }
+        AlbatrossLanguageBundle bundle = open(file);
+        deleteStaleBundles(cacheDirectory, baseName, file);
+        return bundle;
+    }
+
+    private static void extract(byte[] header, InputStream resource, File file) throws IOException {
+        file.getParentFile().mkdirs();
+        // Not Files.createTempFile, which would leave the bundle readable by its owner only.
+        Path temporaryFile = file.toPath().resolveSibling(file.getName() + ".tmp");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temporaryFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                outputStream.write(header);
+                resource.transferTo(outputStream);
+            }
+            Files.move(temporaryFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Deletes bundles extracted from earlier builds of the same language file. Bundles still mapped by a previous plugin
+     * instance can't be deleted on Windows; those are left for a later startup.
+     */
+    private static void deleteStaleBundles(File cacheDirectory, String baseName, File currentFile) {
+        File[] staleFiles = cacheDirectory.listFiles((directory, name) -> name.matches(Pattern.quote(baseName) + "-[0-9a-f]{8}\\.bundle")
+                && !name.equals(currentFile.getName()));
+        if (staleFiles != null) {
+            for (File staleFile : staleFiles) {
+                staleFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Gets a string from the bundle, decoding it on first access.
+     *
+     * @param key dotted path of the string
+     * @return the string, or null if the bundle doesn't contain the key
+     */
+    public String getString(String key) {
+        int index = indexOf(key.getBytes(StandardCharsets.UTF_8));
+        if (index < 0) {
+            return null;
+        }
+
+        String value = values[index];
+        if (value == null) {
+            int entry = HEADER_SIZE + index * INDEX_ENTRY_SIZE;
+            value = decode(buffer.getInt(entry + 8), buffer.getInt(entry + 12));
+            values[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * @param key dotted path of the string
+     * @return whether the bundle contains the key
+     */
+    public boolean contains(String key) {
+        return indexOf(key.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    /**
+     * @return number of strings in the bundle.
+     */
+    public int size() { return numKeys; }
+
+    /**
+     * Binary searches the index, which the build sorts by the unsigned UTF-8 bytes of each key, so keys never have to
+     * be decoded during a lookup.
+     */
+    private int indexOf(byte[] key) {
+        int low = 0;
+        int high = numKeys - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = HEADER_SIZE + middle * INDEX_ENTRY_SIZE;
+            int comparison = compareKey(buffer.getInt(entry), buffer.getInt(entry + 4), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            }
+            else if (comparison > 0) {
+                high = middle - 1;
+            }
+            else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int compareKey(int offset, int length, byte[] key) {
+        int commonLength = Math.min(length, key.length);
+        for (int i = 0; i < commonLength; i++) {
+            int comparison = Integer.compare(buffer.get(offset + i) & 0xFF, key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private boolean isOutOfBounds(int offset, int length) {
+        return offset < HEADER_SIZE || length < 0 || (long) offset + length > buffer.capacity();
+    }
+
+    private String decode(int offset, int length) {
+        byte[] bytes = new byte[length];
+        // Absolute bulk get; doesn't touch the shared buffer's position.
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks the header and checksum of a bundle using plain reads, without mapping it.
+     *
+     * @throws IOException if the file isn't a valid bundle
+     */
+    private static void validate(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) { }
+        if (header.hasRemaining() || size > Integer.MAX_VALUE || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a language bundle.");
+        }
+        if (header.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported language bundle version " + header.getInt(4) + ".");
+        }
+        int numKeys = header.getInt(16);
+        if (numKeys < 0 || HEADER_SIZE + (long) numKeys * INDEX_ENTRY_SIZE > size) {
+            throw new IOException("Language bundle index is corrupt.");
+        }
+
+        CRC32 checksum = new CRC32();
+        ByteBuffer chunk = ByteBuffer.allocate(8192);
+        long position = HEADER_SIZE;
+        int length;
+        while (position < size && (length = channel.read(chunk.clear(), position)) >= 0) {
+            checksum.update(chunk.flip());
+            position += length;
+        }
+        if (checksum.getValue() != header.getLong(8)) {
+            throw new IOException("Language bundle checksum does not match.");
+        }
+    }
+}
@@ -6,12 +6,18 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
 
 public class AlbatrossLanguageManager {
     private final String fallbackLocaleString;
     private final File pathToLangFilesFromPluginDataDirectory;
     private final JavaPlugin plugin;
+    private final Map<String, AlbatrossLanguageBundle> bundles = new HashMap<>();
+    private final Map<String, AlbatrossConfiguration> languageFiles = new HashMap<>();
 
     /**
      * Creates a new AlbatrossLanguageManager
@@ -41,13 +47,8 @@ public class AlbatrossLanguageManager {
 
     public String getLocalizedString(String key, Player player) throws IOException, InvalidConfigurationException {
         String locale = player.getLocale();
-        AlbatrossConfiguration languageFile = getLangFileByLocale(getThreeLetterLanguageCodeFromMinecraftLocaleString(locale));
-        languageFile.loadConfiguration();
+        String localizedString = getString(key, getThreeLetterLanguageCodeFromMinecraftLocaleString(locale));
 
-        String localizedString;
-        try {
-            localizedString = languageFile.getString(key);
-        }
         /*
             This shouldn't ever happen. It means that the yaml file doesn't have a parameter matching the key provided.
 
@@ -58,42 +59,129 @@ public class AlbatrossLanguageManager {
                untranslated keys from the yaml file. It is best practice to leave untranslated strings in the language
                file rather than delete them.
          */
-        catch (Exception ignored) {
-            languageFile = new AlbatrossConfiguration("lang-" + fallbackLocaleString + ".yml", plugin);
-            try {
-                localizedString = languageFile.getString(key);
-            }
-            /*
-                If this happens #1 and/or #2 are likely to be the case.
-             */
-            catch (Exception e){
-                plugin.getLogger().severe("Unable to locate key \"" + key + "\" in fallback or localized language file.");
-                localizedString = "There was an unrecoverable error while reading from the language file";
-            }
+        if (localizedString == null) {
+            localizedString = getString(key, fallbackLocaleString);
+        }
+        /*
+            If this happens #1 and/or #2 are likely to be the case.
+         */
+        if (localizedString == null) {
+            plugin.getLogger().severe("Unable to locate key \"" + key + "\" in fallback or localized language file.");
+            localizedString = "There was an unrecoverable error while reading from the language file";
         }
         return localizedString;
     }
 
     public String getFallbackLocaleString(String key) throws IOException, InvalidConfigurationException {
-        AlbatrossConfiguration languageFile = getLangFileByLocale(fallbackLocaleString);
-        languageFile.loadConfiguration();
-        return languageFile.getString(key);
+        return getString(key, fallbackLocaleString);
+    }
+
+    /**
+     * Discards cached language files so edits made to them on disk are picked up by the next lookup.
+     */
+    public synchronized void reload() {
+        languageFiles.clear();
     }
 
     /**
-     * Returns a file based off the language string specified.
-     * Returns the fallback file if a suitable translation isn't found.
+     * Looks up a string for a single locale without falling back to another language.
+     * <p>
+     * A lang-*.yml file in the plugin's data folder takes precedence over the compiled bundle shipped in the plugin jar,
+     * allowing server owners to override individual strings. If the plugin doesn't ship a bundle, the fallback language
+     * file is extracted and read as YAML.
+     *
+     * @param key path of the string
+     * @param localeString an ISO 639-3 locale string.
+     * @return the string, or null if it doesn't exist for this locale.
+     * @throws IOException
+     * @throws InvalidConfigurationException
+     */
+    private String getString(String key, String localeString) throws IOException, InvalidConfigurationException {
+        if (localeString == null) {
+            return null;
+        }
+
+        AlbatrossLanguageBundle bundle = getBundle(localeString);
+        AlbatrossConfiguration languageFile = getLanguageFile(localeString, bundle != null);
+        if (languageFile != null && languageFile.contains(key)) {
+            return languageFile.getString(key);
+        }
+        return bundle == null ? null : bundle.getString(key);
+    }
+
+    /**
+     * Returns the YAML language file for a locale, loading it on first use. Call {@link #reload()} to pick up changes.
+     * <p>
+     * When a bundle is shipped, a file identical to the shipped YAML is ignored, as reading an untouched copy would only
+     * duplicate the bundle. The fallback language file is still extracted for server owners to edit.
      *
      * @param localeString an ISO 639-3 locale string.
-     * @return Returns a localized language file or the fallback file if a suitable translation doesn't exist.
+     * @param hasBundle whether a compiled bundle is available for this locale.
+     * @return the language file, or null if there is nothing to read from YAML.
+     * @throws IOException
+     * @throws InvalidConfigurationException
      */
-    private AlbatrossConfiguration getLangFileByLocale(String localeString) {
-        File file = new File(plugin.getDataFolder(), "lang-" + localeString + ".yml");
-        if (file.exists()) {
-            return new AlbatrossConfiguration("lang-" + localeString + ".yml", plugin);
+    private synchronized AlbatrossConfiguration getLanguageFile(String localeString, boolean hasBundle) throws IOException, InvalidConfigurationException {
+        if (languageFiles.containsKey(localeString)) {
+            return languageFiles.get(localeString);
         }
-        else {
-            return new AlbatrossConfiguration("lang-" + fallbackLocaleString + ".yml", plugin);
+
+        String fileName = "lang-" + localeString + ".yml";
+        File file = new File(plugin.getDataFolder(), fileName);
+        AlbatrossConfiguration languageFile = null;
+        if (hasBundle) {
+            // The fallback file is still extracted so server owners have a complete file to edit, but it is only parsed
+            // once it differs from the shipped copy.
+            if (localeString.equals(fallbackLocaleString)) {
+                new AlbatrossFileManager(fileName, plugin).createConfigurationFileIfNotExists();
+            }
+            if (file.exists() && !isUnmodifiedResource(file, fileName)) {
+                languageFile = new AlbatrossConfiguration(fileName, plugin);
+                languageFile.loadConfiguration();
+            }
+        }
+        else if (file.exists() || localeString.equals(fallbackLocaleString)) {
+            languageFile = new AlbatrossConfiguration(fileName, plugin);
+            languageFile.loadConfiguration();
+        }
+        languageFiles.put(localeString, languageFile);
+        return languageFile;
+    }
+
+    /**
+     * Returns the compiled bundle for a locale, mapping it on first use.
+     * <p>
+     * If the bundle can't be extracted or mapped, the failure is logged once and the locale is read from YAML instead.
+     *
+     * @param localeString an ISO 639-3 locale string.
+     * @return the bundle, or null if the plugin doesn't ship a usable one for this locale.
+     */
+    private synchronized AlbatrossLanguageBundle getBundle(String localeString) {
+        if (!bundles.containsKey(localeString)) {
+            AlbatrossLanguageBundle bundle = null;
+            try {
+                bundle = AlbatrossLanguageBundle.fromResource("lang-" + localeString + ".bundle", plugin);
+            }
+            catch (IOException e) {
+                plugin.getLogger().warning("Unable to load language bundle for \"" + localeString + "\", falling back to YAML: " + e.getMessage());
+            }
+            bundles.put(localeString, bundle);
+        }
+        return bundles.get(localeString);
+    }
+
+    /**
+     * @param file language file in the plugin's data folder
+     * @param resourceName name/path of the matching resource in the plugin jar
+     * @return whether the file is an unmodified copy of the resource.
+     * @throws IOException
+     */
+    private boolean isUnmodifiedResource(File file, String resourceName) throws IOException {
+        try (InputStream resource = plugin.getResource(resourceName)) {
+            if (resource == null) {
+                return false;
+            }
+            return Arrays.equals(resource.readAllBytes(), Files.readAllBytes(file.toPath()));
         }
     }
 